@@ -0,0 +1,214 @@
+package approximations;
+
+import java.math.BigDecimal;
+
+/**
+ * This enum describes each deterministic approximation in this package, along
+ * with how quickly its series converges and how far it can be pushed before its
+ * implementation stops producing correct digits.
+ *
+ * CircularArea is intentionally omitted, as its random sampling does not
+ * converge at a predictable rate.
+ *
+ * @author Kyler McMullin
+ *
+ */
+public enum Algorithm {
+
+	/**
+	 * Plouffe's BBP formula. Each term contributes log10(16) digits.
+	 */
+	BBP(1.2041, Integer.MAX_VALUE, Integer.MAX_VALUE) {
+		@Override
+		public BigDecimal approx(int terms, int decimalPlaces) {
+			return new approximations.BBP(terms, decimalPlaces).approx();
+		}
+	},
+	/**
+	 * The Chudnovsky formula. The constant sqrt(640320^3) is rounded to an integer,
+	 * which limits the result to 9 correct decimal places. The linear term of the
+	 * series overflows an int once i reaches 4, so the iteration count is capped
+	 * at 3, which is all those 9 places need.
+	 */
+	CHUDNOVSKY(14.1816, 9, 3) {
+		@Override
+		public BigDecimal approx(int terms, int decimalPlaces) {
+			return new Chudnovsky(terms, decimalPlaces).approx();
+		}
+	},
+	/**
+	 * The Euler Convergence Transformation. Each term contributes log10(2) digits.
+	 * The series is evaluated recursively, so the term count is bounded by the
+	 * stack depth.
+	 */
+	EULER_CONVERGENCE(0.3010, Integer.MAX_VALUE, 2500) {
+		@Override
+		public BigDecimal approx(int terms, int decimalPlaces) {
+			return new EulerConvergence(terms, decimalPlaces).approx();
+		}
+	},
+	/**
+	 * The Gregory-Leibniz series. The error after n terms is roughly 1/n, so each
+	 * additional digit costs ten times as many terms.
+	 */
+	GREGORY_LEIBNIZ(0, Integer.MAX_VALUE, Integer.MAX_VALUE) {
+		@Override
+		public BigDecimal approx(int terms, int decimalPlaces) {
+			return new GregoryLeibniz(terms, decimalPlaces).approx();
+		}
+
+		@Override
+		public int termsFor(int digits) {
+			if (digits + 1 > 9) {
+				return -1;
+			}
+			return BigDecimal.TEN.pow(digits + 1).intValueExact();
+		}
+	},
+	/**
+	 * The Madhava-Leibniz series. Each term contributes log10(3) digits.
+	 */
+	MADHAVA_LEIBNIZ(0.4771, Integer.MAX_VALUE, Integer.MAX_VALUE) {
+		@Override
+		public BigDecimal approx(int terms, int decimalPlaces) {
+			return new MadhavaLeibniz(terms, decimalPlaces).approx();
+		}
+	},
+	/**
+	 * Ramanujan's series. Each term contributes roughly 8 digits. The factorials
+	 * are evaluated recursively, so the term count is bounded by the stack depth.
+	 * With the default 1 MB stack, (4k)! overflows between 1750 and 2000 terms
+	 * when running interpreted, so the limit leaves headroom below that.
+	 */
+	RAMANUJAN(7.9825, Integer.MAX_VALUE, 1500) {
+		@Override
+		public BigDecimal approx(int terms, int decimalPlaces) {
+			return new Ramanujan(terms, decimalPlaces).approx();
+		}
+	},
+	/**
+	 * Ramanujan's series, evaluated through its term ratio with exact
+	 * accumulation. Each term contributes roughly 8 digits.
+	 */
+	RAMANUJAN_RECURRENCE(7.9825, Integer.MAX_VALUE, Integer.MAX_VALUE) {
+		@Override
+		public BigDecimal approx(int terms, int decimalPlaces) {
+			return new RamanujanRecurrence(terms, decimalPlaces).approx();
+		}
+
+		@Override
+		public BigDecimal approx(int terms, int decimalPlaces, boolean verify) {
+			return new RamanujanRecurrence(terms, decimalPlaces, verify).approx();
+		}
+	},
+	/**
+	 * Viete's formula. Each term contributes log10(4) digits, but the nested roots
+	 * are calculated in DECIMAL128, which limits the result to 30 correct decimal
+	 * places.
+	 */
+	VIETE_FORMULA(0.6021, 30, Integer.MAX_VALUE) {
+		@Override
+		public BigDecimal approx(int terms, int decimalPlaces) {
+			return new VieteFormula(terms, decimalPlaces).approx();
+		}
+	};
+
+	/**
+	 * The number of correct decimal digits gained per iteration of the series.
+	 */
+	private final double digitsPerTerm;
+	/**
+	 * The largest number of decimal places the implementation can get right.
+	 */
+	private final int maxDigits;
+	/**
+	 * The largest number of iterations the implementation can safely perform.
+	 */
+	private final int maxTerms;
+
+	/**
+	 * Instantiates an algorithm description.
+	 *
+	 * @param digitsPerTerm The number of correct decimal digits gained per
+	 *                      iteration of the series.
+	 * @param maxDigits     The largest number of decimal places the
+	 *                      implementation can get right.
+	 * @param maxTerms      The largest number of iterations the implementation can
+	 *                      safely perform.
+	 */
+	Algorithm(double digitsPerTerm, int maxDigits, int maxTerms) {
+		this.digitsPerTerm = digitsPerTerm;
+		this.maxDigits = maxDigits;
+		this.maxTerms = maxTerms;
+	}
+
+	/**
+	 * Runs the approximation with the given iteration count and precision.
+	 *
+	 * @param terms         The number of iterations of the series to perform.
+	 * @param decimalPlaces The number of decimal places to round the approximation
+	 *                      off to.
+	 * @return piApproximation A BigDecimal approximation of pi.
+	 */
+	public abstract BigDecimal approx(int terms, int decimalPlaces);
+
+	/**
+	 * Runs the approximation with the given iteration count and precision,
+	 * optionally checking the modular checksums of its intermediate products. Only
+	 * implementations that accumulate exact integer products have checksums; the
+	 * others ignore the flag.
+	 *
+	 * @param terms         The number of iterations of the series to perform.
+	 * @param decimalPlaces The number of decimal places to round the approximation
+	 *                      off to.
+	 * @param verify        Whether to check the modular checksums.
+	 * @return piApproximation A BigDecimal approximation of pi.
+	 * @throws ArithmeticException If verifying and a checksum does not match.
+	 */
+	public BigDecimal approx(int terms, int decimalPlaces, boolean verify) {
+		return approx(terms, decimalPlaces);
+	}
+
+	/**
+	 * Returns the number of iterations needed for the given number of correct
+	 * decimal places, or -1 if this algorithm cannot reach it.
+	 *
+	 * @param digits The number of correct decimal places required.
+	 * @return terms The number of iterations of the series to perform.
+	 */
+	public int termsFor(int digits) {
+		if (digits > maxDigits) {
+			return -1;
+		}
+		// Two extra terms cover the constant factor in front of the error bound.
+		double terms = Math.ceil(digits / digitsPerTerm) + 2;
+		if (terms > maxTerms) {
+			return -1;
+		}
+		return (int) terms;
+	}
+
+	/**
+	 * @return digitsPerTerm The number of correct decimal digits gained per
+	 *         iteration of the series.
+	 */
+	public double getDigitsPerTerm() {
+		return digitsPerTerm;
+	}
+
+	/**
+	 * @return maxDigits The largest number of decimal places the implementation can
+	 *         get right.
+	 */
+	public int getMaxDigits() {
+		return maxDigits;
+	}
+
+	/**
+	 * @return maxTerms The largest number of iterations the implementation can
+	 *         safely perform.
+	 */
+	public int getMaxTerms() {
+		return maxTerms;
+	}
+}
@@ -0,0 +1,238 @@
+package approximations;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class picks the cheapest approximation algorithm, and the number of
+ * iterations to run it for, that produces a requested number of correct decimal
+ * places.
+ *
+ * @author Kyler McMullin
+ *
+ */
+public class AlgorithmSelector {
+
+	/**
+	 * The number of extra decimal places every algorithm is run at, absorbing the
+	 * rounding error accumulated by its terms.
+	 */
+	public static final int GUARD_DIGITS = 5;
+
+	/**
+	 * The cost model used to compare algorithms.
+	 */
+	private final CostModel costModel;
+
+	/**
+	 * Instantiates the selector, benchmarking every algorithm to build its cost
+	 * model.
+	 */
+	public AlgorithmSelector() {
+		this(CostModel.calibrate());
+	}
+
+	/**
+	 * Instantiates the selector with an existing cost model, such as one loaded
+	 * from a calibration file.
+	 *
+	 * @param costModel The cost model used to compare algorithms.
+	 */
+	public AlgorithmSelector(CostModel costModel) {
+		this.costModel = costModel;
+	}
+
+	/**
+	 * Returns the cheapest route to the given number of correct decimal places.
+	 *
+	 * @param digits The number of correct decimal places required.
+	 * @return route The cheapest route.
+	 */
+	public Route route(int digits) {
+		List<Route> candidates = candidates(digits);
+		if (candidates.isEmpty()) {
+			throw new IllegalArgumentException("No calibrated algorithm can reach " + digits + " decimal places");
+		}
+		return candidates.get(0);
+	}
+
+	/**
+	 * Returns every calibrated algorithm that can reach the given number of
+	 * correct decimal places, cheapest first. This shows why a route was chosen
+	 * over the alternatives.
+	 *
+	 * @param digits The number of correct decimal places required.
+	 * @return candidates The possible routes, ordered by predicted cost.
+	 */
+	public List<Route> candidates(int digits) {
+		if (digits < 0) {
+			throw new IllegalArgumentException("Decimal places must not be negative");
+		}
+
+		List<Route> candidates = new ArrayList<>();
+		for (Algorithm algorithm : Algorithm.values()) {
+			// The series itself must be accurate to the guarded precision, otherwise its
+			// truncation error can still round the last requested digit the wrong way.
+			int decimalPlaces = digits + GUARD_DIGITS;
+			int terms = algorithm.termsFor(decimalPlaces);
+			if (terms < 0 || !costModel.isCalibrated(algorithm)) {
+				continue;
+			}
+			candidates.add(new Route(algorithm, terms, digits, decimalPlaces,
+					costModel.predict(algorithm, terms, decimalPlaces)));
+		}
+		candidates.sort(Comparator.comparingDouble(Route::getPredictedNanos));
+		return candidates;
+	}
+
+	/**
+	 * Approximates pi to the given number of decimal places using the cheapest
+	 * route.
+	 *
+	 * @param digits The number of decimal places to round the approximation off
+	 *               to.
+	 * @return piApproximation A BigDecimal approximation of pi.
+	 */
+	public BigDecimal approx(int digits) {
+		return route(digits).approx();
+	}
+
+	/**
+	 * Approximates pi to the given number of decimal places using the cheapest
+	 * route, checking the modular checksums of its intermediate products where the
+	 * algorithm has them, then spot-checks its tail digits with the BBP digit
+	 * extraction.
+	 *
+	 * @param digits The number of decimal places to round the approximation off
+	 *               to.
+	 * @return piApproximation A verified BigDecimal approximation of pi.
+	 * @throws ArithmeticException If a checksum or the spot-check fails.
+	 */
+	public BigDecimal verifiedApprox(int digits) {
+		Route route = route(digits);
+		BigDecimal pi = route.approx(true);
+		if (!Verifier.spotCheck(pi)) {
+			throw new ArithmeticException("Spot-check failed for " + route);
+		}
+		return pi;
+	}
+
+	/**
+	 * @return costModel The cost model used to compare algorithms.
+	 */
+	public CostModel getCostModel() {
+		return costModel;
+	}
+
+	/**
+	 * This class describes a single way of reaching a requested precision: which
+	 * algorithm to run, for how many iterations, and what it is expected to cost.
+	 */
+	public static class Route {
+
+		/**
+		 * The algorithm to run.
+		 */
+		private final Algorithm algorithm;
+		/**
+		 * The number of iterations of the series to perform.
+		 */
+		private final int terms;
+		/**
+		 * The number of decimal places the final result is rounded to.
+		 */
+		private final int digits;
+		/**
+		 * The number of decimal places the algorithm is run at.
+		 */
+		private final int decimalPlaces;
+		/**
+		 * The predicted running time in nanoseconds.
+		 */
+		private final double predictedNanos;
+
+		/**
+		 * Instantiates a route.
+		 *
+		 * @param algorithm      The algorithm to run.
+		 * @param terms          The number of iterations of the series to perform.
+		 * @param digits         The number of decimal places the final result is
+		 *                       rounded to.
+		 * @param decimalPlaces  The number of decimal places the algorithm is run at.
+		 * @param predictedNanos The predicted running time in nanoseconds.
+		 */
+		Route(Algorithm algorithm, int terms, int digits, int decimalPlaces, double predictedNanos) {
+			this.algorithm = algorithm;
+			this.terms = terms;
+			this.digits = digits;
+			this.decimalPlaces = decimalPlaces;
+			this.predictedNanos = predictedNanos;
+		}
+
+		/**
+		 * Runs the route.
+		 *
+		 * @return piApproximation A BigDecimal approximation of pi.
+		 */
+		public BigDecimal approx() {
+			return approx(false);
+		}
+
+		/**
+		 * Runs the route, optionally checking the modular checksums of the
+		 * algorithm's intermediate products.
+		 *
+		 * @param verify Whether to check the modular checksums.
+		 * @return piApproximation A BigDecimal approximation of pi.
+		 * @throws ArithmeticException If verifying and a checksum does not match.
+		 */
+		public BigDecimal approx(boolean verify) {
+			return algorithm.approx(terms, decimalPlaces, verify).setScale(digits, RoundingMode.HALF_UP);
+		}
+
+		/**
+		 * @return algorithm The algorithm to run.
+		 */
+		public Algorithm getAlgorithm() {
+			return algorithm;
+		}
+
+		/**
+		 * @return terms The number of iterations of the series to perform.
+		 */
+		public int getTerms() {
+			return terms;
+		}
+
+		/**
+		 * @return digits The number of decimal places the final result is rounded
+		 *         to.
+		 */
+		public int getDigits() {
+			return digits;
+		}
+
+		/**
+		 * @return decimalPlaces The number of decimal places the algorithm is run at.
+		 */
+		public int getDecimalPlaces() {
+			return decimalPlaces;
+		}
+
+		/**
+		 * @return predictedNanos The predicted running time in nanoseconds.
+		 */
+		public double getPredictedNanos() {
+			return predictedNanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s x %d terms at %d places: ~%.3g ns", algorithm, terms, decimalPlaces,
+					predictedNanos);
+		}
+	}
+}
@@ -0,0 +1,369 @@
+package approximations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.IntStream;
+
+/**
+ * This class models the running time of each approximation algorithm as a
+ * power law of its iteration count and precision:
+ *
+ * nanoseconds = coefficient * terms^termExponent * decimalPlaces^digitExponent
+ *
+ * The model is either fitted by benchmarking each algorithm, or loaded from a
+ * previously saved calibration file.
+ *
+ * @author Kyler McMullin
+ *
+ */
+public class CostModel {
+
+	/**
+	 * The default iteration counts to benchmark each algorithm at.
+	 */
+	public static final int[] DEFAULT_TERMS = { 16, 64, 256 };
+	/**
+	 * The default precisions to benchmark each algorithm at, spanning the range
+	 * the model is used to extrapolate over.
+	 */
+	public static final int[] DEFAULT_DIGITS = { 64, 256, 1024 };
+	/**
+	 * The maximum number of timed runs per benchmark point. The fastest run is
+	 * kept.
+	 */
+	private static final int RUNS = 5;
+	/**
+	 * Once a single run takes this many nanoseconds, timer and JIT noise no longer
+	 * matter and the benchmark point is not repeated.
+	 */
+	private static final long REPEAT_THRESHOLD = 50_000_000L;
+	/**
+	 * The smallest exponent a fit may have. Every algorithm does at least
+	 * proportionally more work for more iterations or more digits.
+	 */
+	private static final double MIN_EXPONENT = 1;
+
+	/**
+	 * The fitted parameters of each calibrated algorithm, in the order
+	 * {coefficient, termExponent, digitExponent}.
+	 */
+	private final Map<Algorithm, double[]> fits = new EnumMap<>(Algorithm.class);
+
+	/**
+	 * Benchmarks every algorithm over the default grid and fits the model. This
+	 * takes tens of seconds, so the result is worth saving with save(Path).
+	 *
+	 * @return costModel The fitted cost model.
+	 */
+	public static CostModel calibrate() {
+		return calibrate(DEFAULT_TERMS, DEFAULT_DIGITS, Algorithm.values());
+	}
+
+	/**
+	 * Benchmarks the given algorithms over every pairing of the given iteration
+	 * counts and precisions, and fits the model by least squares in log space.
+	 * Values beyond an algorithm's maximum iteration count or precision are
+	 * dropped for that algorithm, as its output there is wrong or it may fail; if
+	 * fewer than two remain, the grid is rebuilt below the maximum instead.
+	 *
+	 * @param terms      The iteration counts to benchmark at. At least two distinct
+	 *                   values are required.
+	 * @param digits     The precisions to benchmark at. At least two distinct
+	 *                   values are required.
+	 * @param algorithms The algorithms to calibrate.
+	 * @return costModel The fitted cost model.
+	 */
+	public static CostModel calibrate(int[] terms, int[] digits, Algorithm... algorithms) {
+		if (terms.length < 2 || digits.length < 2) {
+			throw new IllegalArgumentException("At least two iteration counts and two precisions are required");
+		}
+
+		CostModel model = new CostModel();
+		for (Algorithm algorithm : algorithms) {
+			int[] algorithmTerms = withinLimit(terms, algorithm.getMaxTerms());
+			int[] algorithmDigits = withinLimit(digits, algorithm.getMaxDigits());
+
+			// Warm up the JIT on the cheapest point before timing anything.
+			for (int r = 0; r < RUNS; r++) {
+				algorithm.approx(algorithmTerms[0], algorithmDigits[0]);
+			}
+
+			double[][] samples = new double[algorithmTerms.length * algorithmDigits.length][];
+			int s = 0;
+			for (int t : algorithmTerms) {
+				for (int d : algorithmDigits) {
+					long best = Long.MAX_VALUE;
+					for (int r = 0; r < RUNS && (r == 0 || best < REPEAT_THRESHOLD); r++) {
+						long start = System.nanoTime();
+						algorithm.approx(t, d);
+						best = Math.min(best, System.nanoTime() - start);
+					}
+					samples[s++] = new double[] { Math.log(t), Math.log(d), Math.log(Math.max(best, 1)) };
+				}
+			}
+			model.fits.put(algorithm, fit(samples));
+		}
+		return model;
+	}
+
+	/**
+	 * Returns the distinct grid values that do not exceed the limit, in ascending
+	 * order. If fewer than two do, a grid of a quarter, a half and all of the limit
+	 * is used instead.
+	 *
+	 * INTERNAL USE ONLY!!!
+	 *
+	 * @param values The grid values to filter.
+	 * @param limit  The largest value allowed.
+	 * @return values The filtered grid values.
+	 */
+	private static int[] withinLimit(int[] values, int limit) {
+		int[] within = Arrays.stream(values).filter(v -> v <= limit).distinct().sorted().toArray();
+		if (within.length < 2) {
+			within = IntStream.of(Math.max(1, limit / 4), Math.max(1, limit / 2), limit).distinct().toArray();
+		}
+		if (within.length < 2) {
+			throw new IllegalArgumentException("Cannot build a benchmark grid below " + limit);
+		}
+		return within;
+	}
+
+	/**
+	 * Loads a cost model from a calibration file previously written by
+	 * {@link #save(Path)}.
+	 *
+	 * @param file The calibration file to read.
+	 * @return costModel The loaded cost model.
+	 * @throws IOException If the file cannot be read.
+	 */
+	public static CostModel load(Path file) throws IOException {
+		Properties properties = new Properties();
+		try (InputStream in = Files.newInputStream(file)) {
+			properties.load(in);
+		}
+
+		CostModel model = new CostModel();
+		for (Algorithm algorithm : Algorithm.values()) {
+			String coefficient = properties.getProperty(algorithm.name() + ".coefficient");
+			if (coefficient == null) {
+				continue;
+			}
+			try {
+				model.fits.put(algorithm,
+						new double[] { Double.parseDouble(coefficient),
+								Double.parseDouble(properties.getProperty(algorithm.name() + ".termExponent")),
+								Double.parseDouble(properties.getProperty(algorithm.name() + ".digitExponent")) });
+			} catch (NullPointerException | NumberFormatException e) {
+				throw new IOException("Malformed calibration entry for " + algorithm, e);
+			}
+		}
+		return model;
+	}
+
+	/**
+	 * Saves this cost model to a calibration file.
+	 *
+	 * @param file The calibration file to write.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void save(Path file) throws IOException {
+		Properties properties = new Properties();
+		for (Map.Entry<Algorithm, double[]> entry : fits.entrySet()) {
+			String name = entry.getKey().name();
+			properties.setProperty(name + ".coefficient", Double.toString(entry.getValue()[0]));
+			properties.setProperty(name + ".termExponent", Double.toString(entry.getValue()[1]));
+			properties.setProperty(name + ".digitExponent", Double.toString(entry.getValue()[2]));
+		}
+		try (OutputStream out = Files.newOutputStream(file)) {
+			properties.store(out, "JPiApprox cost model calibration");
+		}
+	}
+
+	/**
+	 * Returns whether the given algorithm has been calibrated.
+	 *
+	 * @param algorithm The algorithm to check.
+	 * @return calibrated True if the model can predict the algorithm's cost.
+	 */
+	public boolean isCalibrated(Algorithm algorithm) {
+		return fits.containsKey(algorithm);
+	}
+
+	/**
+	 * Predicts the running time of the given algorithm.
+	 *
+	 * @param algorithm     The algorithm to run.
+	 * @param terms         The number of iterations of the series to perform.
+	 * @param decimalPlaces The number of decimal places to calculate to.
+	 * @return nanoseconds The predicted running time in nanoseconds.
+	 */
+	public double predict(Algorithm algorithm, int terms, int decimalPlaces) {
+		double[] fit = fitFor(algorithm);
+		return fit[0] * Math.pow(terms, fit[1]) * Math.pow(decimalPlaces, fit[2]);
+	}
+
+	/**
+	 * @param algorithm The calibrated algorithm.
+	 * @return coefficient The fitted running time, in nanoseconds, of a single
+	 *         iteration at a single decimal place.
+	 */
+	public double getCoefficient(Algorithm algorithm) {
+		return fitFor(algorithm)[0];
+	}
+
+	/**
+	 * @param algorithm The calibrated algorithm.
+	 * @return termExponent The fitted growth of the running time with the
+	 *         iteration count.
+	 */
+	public double getTermExponent(Algorithm algorithm) {
+		return fitFor(algorithm)[1];
+	}
+
+	/**
+	 * @param algorithm The calibrated algorithm.
+	 * @return digitExponent The fitted growth of the running time with the
+	 *         precision.
+	 */
+	public double getDigitExponent(Algorithm algorithm) {
+		return fitFor(algorithm)[2];
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<Algorithm, double[]> entry : fits.entrySet()) {
+			double[] fit = entry.getValue();
+			sb.append(String.format("%s: %.3g ns * terms^%.3f * digits^%.3f%n", entry.getKey(), fit[0], fit[1],
+					fit[2]));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the fitted parameters of the given algorithm.
+	 *
+	 * INTERNAL USE ONLY!!!
+	 *
+	 * @param algorithm The calibrated algorithm.
+	 * @return fit The fitted parameters.
+	 */
+	private double[] fitFor(Algorithm algorithm) {
+		double[] fit = fits.get(algorithm);
+		if (fit == null) {
+			throw new IllegalArgumentException(algorithm + " has not been calibrated");
+		}
+		return fit;
+	}
+
+	/**
+	 * Fits log(time) = a + b * log(terms) + c * log(digits) by least squares. An
+	 * exponent below MIN_EXPONENT would predict that more work costs (almost)
+	 * nothing extra, which only happens when fixed overheads hide the growth within
+	 * the benchmark grid, so such an exponent is fixed at MIN_EXPONENT and the
+	 * remaining parameters are refitted.
+	 *
+	 * INTERNAL USE ONLY!!!
+	 *
+	 * @param samples The samples, each in the form {log(terms), log(digits),
+	 *                log(time)}.
+	 * @return fit The fitted parameters {e^a, b, c}.
+	 */
+	private static double[] fit(double[][] samples) {
+		double termExponent = Double.NaN, digitExponent = Double.NaN;
+		while (true) {
+			double[] fit = leastSquares(samples, termExponent, digitExponent);
+			if (Double.isNaN(termExponent) && fit[1] < MIN_EXPONENT) {
+				termExponent = MIN_EXPONENT;
+			} else if (Double.isNaN(digitExponent) && fit[2] < MIN_EXPONENT) {
+				digitExponent = MIN_EXPONENT;
+			} else {
+				return fit;
+			}
+		}
+	}
+
+	/**
+	 * Fits log(time) = a + b * log(terms) + c * log(digits) by solving the normal
+	 * equations of the least squares problem, holding either exponent fixed if it
+	 * is given.
+	 *
+	 * INTERNAL USE ONLY!!!
+	 *
+	 * @param samples       The samples, each in the form {log(terms), log(digits),
+	 *                      log(time)}.
+	 * @param termExponent  The fixed value of b, or NaN to fit it.
+	 * @param digitExponent The fixed value of c, or NaN to fit it.
+	 * @return fit The fitted parameters {e^a, b, c}.
+	 */
+	private static double[] leastSquares(double[][] samples, double termExponent, double digitExponent) {
+		boolean fitTerms = Double.isNaN(termExponent), fitDigits = Double.isNaN(digitExponent);
+		int n = 1 + (fitTerms ? 1 : 0) + (fitDigits ? 1 : 0);
+
+		// Augmented matrix of the normal equations (X^T X | X^T y), where the fixed
+		// exponents' contributions are moved into y.
+		double[][] m = new double[n][n + 1];
+		for (double[] sample : samples) {
+			double[] x = new double[n];
+			int c = 0;
+			x[c++] = 1;
+			if (fitTerms) {
+				x[c++] = sample[0];
+			}
+			if (fitDigits) {
+				x[c++] = sample[1];
+			}
+			double y = sample[2] - (fitTerms ? 0 : termExponent * sample[0])
+					- (fitDigits ? 0 : digitExponent * sample[1]);
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					m[i][j] += x[i] * x[j];
+				}
+				m[i][n] += x[i] * y;
+			}
+		}
+
+		// Gaussian elimination with partial pivoting.
+		for (int col = 0; col < n; col++) {
+			int pivot = col;
+			for (int row = col + 1; row < n; row++) {
+				if (Math.abs(m[row][col]) > Math.abs(m[pivot][col])) {
+					pivot = row;
+				}
+			}
+			double[] swap = m[col];
+			m[col] = m[pivot];
+			m[pivot] = swap;
+			if (m[col][col] == 0) {
+				throw new IllegalArgumentException("Benchmark grid is degenerate");
+			}
+			for (int row = 0; row < n; row++) {
+				if (row != col) {
+					double factor = m[row][col] / m[col][col];
+					for (int k = col; k <= n; k++) {
+						m[row][k] -= factor * m[col][k];
+					}
+				}
+			}
+		}
+
+		int c = 0;
+		double coefficient = Math.exp(m[c][n] / m[c][c]);
+		c++;
+		if (fitTerms) {
+			termExponent = m[c][n] / m[c][c];
+			c++;
+		}
+		if (fitDigits) {
+			digitExponent = m[c][n] / m[c][c];
+		}
+		return new double[] { coefficient, termExponent, digitExponent };
+	}
+}
@@ -0,0 +1,212 @@
+package approximations;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * This class measures how many correct digits each approximation algorithm
+ * actually produces, and what they cost, over a grid of iteration counts and
+ * precisions. Each result is compared against a reference digit file, and the
+ * measurements are written as CSV with the columns:
+ *
+ * algorithm, iterations, decimal_places, correct_digits, wall_nanos,
+ * allocated_bytes, correct_digits_per_second, error
+ *
+ * Each algorithm is warmed up before it is measured, and fast measurements are
+ * repeated with the fastest run reported. allocated_bytes is -1 when the JVM
+ * cannot measure per-thread allocation.
+ *
+ * @author Kyler McMullin
+ *
+ */
+public class Profiler {
+
+	/**
+	 * The default iteration counts to profile each algorithm at.
+	 */
+	public static final int[] DEFAULT_ITERATIONS = { 10, 100, 500 };
+	/**
+	 * The default precisions to profile each algorithm at.
+	 */
+	public static final int[] DEFAULT_DECIMAL_PLACES = { 50, 200, 1000 };
+	/**
+	 * The maximum number of timed runs per measurement. The fastest run is kept.
+	 */
+	private static final int RUNS = 5;
+	/**
+	 * Once a single run takes this many nanoseconds, timer and JIT noise no longer
+	 * matter and the measurement is not repeated.
+	 */
+	private static final long REPEAT_THRESHOLD = 50_000_000L;
+
+	/**
+	 * The reference digits results are compared against.
+	 */
+	private final ReferenceDigits reference;
+
+	/**
+	 * Instantiates the profiler.
+	 *
+	 * @param reference The reference digits results are compared against.
+	 */
+	public Profiler(ReferenceDigits reference) {
+		this.reference = reference;
+	}
+
+	/**
+	 * Profiles every algorithm, including CircularArea, over every pairing of the
+	 * given iteration counts and precisions. Pairings beyond an algorithm's safe
+	 * iteration count are skipped.
+	 *
+	 * @param iterations    The iteration counts to profile at.
+	 * @param decimalPlaces The precisions to profile at.
+	 * @param out           The stream to write the CSV to.
+	 */
+	public void profile(int[] iterations, int[] decimalPlaces, PrintStream out) {
+		for (int d : decimalPlaces) {
+			if (d > reference.getDecimalPlaces()) {
+				throw new IllegalArgumentException(
+						"Reference only holds " + reference.getDecimalPlaces() + " decimal places, " + d + " requested");
+			}
+		}
+
+		Map<String, BiFunction<Integer, Integer, BigDecimal>> engines = new LinkedHashMap<>();
+		Map<String, Integer> maxTerms = new LinkedHashMap<>();
+		for (Algorithm algorithm : Algorithm.values()) {
+			engines.put(algorithm.name(), algorithm::approx);
+			maxTerms.put(algorithm.name(), algorithm.getMaxTerms());
+		}
+		engines.put("CIRCULAR_AREA", (t, d) -> new CircularArea(t, d).approx());
+		maxTerms.put("CIRCULAR_AREA", Integer.MAX_VALUE);
+
+		out.println("algorithm,iterations,decimal_places,correct_digits,wall_nanos,allocated_bytes,"
+				+ "correct_digits_per_second,error");
+		int minIterations = Arrays.stream(iterations).min().orElse(0);
+		int minDecimalPlaces = Arrays.stream(decimalPlaces).min().orElse(0);
+		for (Map.Entry<String, BiFunction<Integer, Integer, BigDecimal>> engine : engines.entrySet()) {
+			// Warm up the JIT on the cheapest point before timing anything.
+			for (int r = 0; r < RUNS; r++) {
+				try {
+					engine.getValue().apply(minIterations, minDecimalPlaces);
+				} catch (ArithmeticException | StackOverflowError e) {
+					break;
+				}
+			}
+
+			for (int t : iterations) {
+				if (t > maxTerms.get(engine.getKey())) {
+					continue;
+				}
+				for (int d : decimalPlaces) {
+					out.println(measure(engine.getKey(), engine.getValue(), t, d));
+					out.flush();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs an approximation, repeating it while it is fast enough for noise to
+	 * matter, and formats the measurements of its fastest run as a CSV row.
+	 *
+	 * INTERNAL USE ONLY!!!
+	 *
+	 * @param name          The name of the algorithm.
+	 * @param engine        The algorithm, taking an iteration count and precision.
+	 * @param iterations    The number of iterations to run.
+	 * @param decimalPlaces The number of decimal places to run at.
+	 * @return row The CSV row.
+	 */
+	private String measure(String name, BiFunction<Integer, Integer, BigDecimal> engine, int iterations,
+			int decimalPlaces) {
+		long wallNanos = Long.MAX_VALUE;
+		long allocated = -1;
+		BigDecimal pi = null;
+		String error = "";
+
+		for (int r = 0; r < RUNS && (r == 0 || wallNanos < REPEAT_THRESHOLD); r++) {
+			long allocatedBefore = allocatedBytes();
+			long start = System.nanoTime();
+			BigDecimal result;
+			try {
+				result = engine.apply(iterations, decimalPlaces);
+			} catch (ArithmeticException | StackOverflowError e) {
+				wallNanos = System.nanoTime() - start;
+				pi = null;
+				error = e.getClass().getSimpleName();
+				break;
+			}
+			long elapsed = System.nanoTime() - start;
+			long allocatedAfter = allocatedBytes();
+
+			if (elapsed < wallNanos) {
+				wallNanos = elapsed;
+				allocated = allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore;
+				pi = result;
+			}
+		}
+
+		int correct = pi == null ? 0 : reference.correctDigits(pi);
+		double perSecond = correct / (Math.max(wallNanos, 1) / 1e9);
+
+		return String.format("%s,%d,%d,%d,%d,%d,%.1f,%s", name, iterations, decimalPlaces, correct, wallNanos,
+				allocated, perSecond, error);
+	}
+
+	/**
+	 * Returns the number of bytes the current thread has allocated so far, or -1 if
+	 * the JVM does not support measuring it.
+	 *
+	 * INTERNAL USE ONLY!!!
+	 *
+	 * @return allocatedBytes The bytes allocated by the current thread.
+	 */
+	private static long allocatedBytes() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+		}
+		return -1;
+	}
+
+	/**
+	 * Profiles every algorithm and writes the CSV to standard output.
+	 *
+	 * Usage: Profiler [referenceFile [iterations [decimalPlaces]]]
+	 *
+	 * The iteration counts and precisions are comma separated lists. Without a
+	 * reference file, the one bundled alongside this class is used, which requires
+	 * pi_reference.txt to have been copied onto the classpath with the classes.
+	 *
+	 * @param args The command line arguments.
+	 * @throws IOException If the reference file cannot be read.
+	 */
+	public static void main(String[] args) throws IOException {
+		ReferenceDigits reference = args.length > 0 ? new ReferenceDigits(Paths.get(args[0]))
+				: ReferenceDigits.bundled();
+		int[] iterations = args.length > 1 ? parseList(args[1]) : DEFAULT_ITERATIONS;
+		int[] decimalPlaces = args.length > 2 ? parseList(args[2]) : DEFAULT_DECIMAL_PLACES;
+
+		new Profiler(reference).profile(iterations, decimalPlaces, System.out);
+	}
+
+	/**
+	 * Parses a comma separated list of integers.
+	 *
+	 * INTERNAL USE ONLY!!!
+	 *
+	 * @param list The list to parse.
+	 * @return values The parsed integers.
+	 */
+	private static int[] parseList(String list) {
+		return Arrays.stream(list.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+	}
+}
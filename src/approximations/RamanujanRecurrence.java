@@ -0,0 +1,159 @@
+package approximations;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * This class generates an approximation of pi using Srinivasa Ramanujan's
+ * formula, updating each term from the previous one through the ratio
+ *
+ * (4k)(4k-1)(4k-2)(4k-3) / (k^4 * 396^4)
+ *
+ * and accumulating the series exactly as a BigInteger fraction. Unlike
+ * Ramanujan, no factorials are recalculated and the result is only rounded
+ * once, so thousands of terms are practical.
+ *
+ * @author Kyler McMullin
+ *
+ */
+public class RamanujanRecurrence {
+
+	/**
+	 * 396^4, the part of the term ratio denominator that does not depend on k.
+	 */
+	private static final BigInteger BASE_POWER = BigInteger.valueOf(396).pow(4);
+	/**
+	 * The checksum of BASE_POWER.
+	 */
+	private static final Verifier.Checksum BASE_CHECK = new Verifier.Checksum(BASE_POWER);
+	/**
+	 * The number of extra decimal places the square root of 2 is calculated to.
+	 */
+	private static final int GUARD_DIGITS = 5;
+	/**
+	 * The most precise square root of 2 calculated so far. Smaller precisions are
+	 * rounded from it, so only one value is ever kept.
+	 */
+	private static volatile BigDecimal cachedRoot2;
+
+	/**
+	 * The number of iterations of the series to perform.
+	 */
+	private int iterations;
+	/**
+	 * The number of decimal places to round the approximation off to.
+	 */
+	private int decimalPlaces;
+	/**
+	 * Whether to track a modular checksum of the series and check it before
+	 * rounding.
+	 */
+	private boolean verify;
+
+	/**
+	 * Instantiates the Ramanujan recurrence approximation class.
+	 *
+	 * @param iterations    The number of iterations of the series to perform.
+	 * @param decimalPlaces The number of decimal places to round the approximation
+	 *                      off to.
+	 */
+	public RamanujanRecurrence(int iterations, int decimalPlaces) {
+		this(iterations, decimalPlaces, false);
+	}
+
+	/**
+	 * Instantiates the Ramanujan recurrence approximation class.
+	 *
+	 * @param iterations    The number of iterations of the series to perform.
+	 * @param decimalPlaces The number of decimal places to round the approximation
+	 *                      off to.
+	 * @param verify        Whether to track a modular checksum of the series and
+	 *                      check it before rounding.
+	 */
+	public RamanujanRecurrence(int iterations, int decimalPlaces, boolean verify) {
+		this.iterations = iterations;
+		this.decimalPlaces = decimalPlaces;
+		this.verify = verify;
+	}
+
+	/**
+	 * Calculates and returns the approximation of pi, rounded off to the set number
+	 * of decimal places.
+	 *
+	 * @return piApproximation A BigDecimal approximation of pi
+	 * @throws ArithmeticException If verifying and the accumulated products fail
+	 *                             their modular checksum.
+	 */
+	public BigDecimal approx() {
+
+		// The current term is termNum / denom, and the series so far is sumNum /
+		// denom. Each denominator divides the next, so it is shared by both.
+		BigInteger termNum = BigInteger.ONE;
+		BigInteger denom = BigInteger.ONE;
+		BigInteger sumNum = iterations > 0 ? BigInteger.valueOf(1103) : BigInteger.ZERO;
+
+		// Checksums of the same values, tracked in constant time per term.
+		Verifier.Checksum termCheck = null, denomCheck = null, sumCheck = null;
+		if (verify) {
+			termCheck = new Verifier.Checksum(1);
+			denomCheck = new Verifier.Checksum(1);
+			sumCheck = new Verifier.Checksum(iterations > 0 ? 1103 : 0);
+		}
+
+		for (int k = 1; k < iterations; k++) {
+			long fourK = 4L * k;
+			long upperA = fourK * (fourK - 1), upperB = (fourK - 2) * (fourK - 3);
+			long kSquared = (long) k * k;
+			long linear = 1103 + 26390L * k;
+
+			BigInteger upper = BigInteger.valueOf(upperA).multiply(BigInteger.valueOf(upperB));
+			BigInteger lower = BigInteger.valueOf(kSquared).multiply(BigInteger.valueOf(kSquared)).multiply(BASE_POWER);
+
+			termNum = termNum.multiply(upper);
+			denom = denom.multiply(lower);
+			sumNum = sumNum.multiply(lower).add(termNum.multiply(BigInteger.valueOf(linear)));
+
+			if (verify) {
+				Verifier.Checksum lowerCheck = new Verifier.Checksum(kSquared).multiply(kSquared).multiply(BASE_CHECK);
+				termCheck = termCheck.multiply(upperA).multiply(upperB);
+				denomCheck = denomCheck.multiply(lowerCheck);
+				sumCheck = sumCheck.multiply(lowerCheck).add(termCheck.multiply(linear));
+			}
+		}
+
+		if (verify && !(denomCheck.matches(denom) && sumCheck.matches(sumNum))) {
+			throw new ArithmeticException("Ramanujan series failed its modular checksum");
+		}
+
+		// pi = 9801 / (2 * sqrt(2) * series) = 9801 * sqrt(2) * denom / (4 * sumNum)
+		return root2(decimalPlaces + GUARD_DIGITS).multiply(new BigDecimal(denom.multiply(BigInteger.valueOf(9801))))
+				.divide(new BigDecimal(sumNum.shiftLeft(2)), decimalPlaces, RoundingMode.HALF_UP);
+	}
+
+	/**
+	 * Returns the square root of 2 to the given number of decimal places, rounding
+	 * it from the cached root when that is precise enough and calculating a new
+	 * one otherwise.
+	 *
+	 * INTERNAL USE ONLY!!!
+	 *
+	 * @param places The number of decimal places to calculate the root to.
+	 * @return root2 The square root of 2.
+	 */
+	private static BigDecimal root2(int places) {
+		BigDecimal cached = cachedRoot2;
+		if (cached == null || cached.scale() < places) {
+			synchronized (RamanujanRecurrence.class) {
+				cached = cachedRoot2;
+				if (cached == null || cached.scale() < places) {
+					cached = BigDecimal.valueOf(2).sqrt(new MathContext(places + 1)).setScale(places,
+							RoundingMode.HALF_UP);
+					cachedRoot2 = cached;
+				}
+			}
+		}
+		return cached.setScale(places, RoundingMode.HALF_UP);
+	}
+}
@@ -0,0 +1,142 @@
+package approximations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class compares approximations against a file of known decimal digits of
+ * pi. The file holds "3." followed by the decimal places, and is memory-mapped
+ * rather than read into the heap, so arbitrarily long references can be used.
+ *
+ * @author Kyler McMullin
+ *
+ */
+public class ReferenceDigits {
+
+	/**
+	 * The name of the reference file bundled alongside this class.
+	 */
+	public static final String BUNDLED_FILE = "pi_reference.txt";
+
+	/**
+	 * The mapped contents of the reference file.
+	 */
+	private final MappedByteBuffer digits;
+	/**
+	 * The number of decimal places held by the reference file.
+	 */
+	private final int decimalPlaces;
+
+	/**
+	 * Maps the given reference file into memory.
+	 *
+	 * @param file The reference file to map.
+	 * @throws IOException If the file cannot be read or does not start with "3.".
+	 */
+	public ReferenceDigits(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Reference file is too large to map: " + file);
+			}
+			digits = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		if (digits.limit() < 2 || digits.get(0) != '3' || digits.get(1) != '.') {
+			throw new IOException("Reference file does not start with \"3.\": " + file);
+		}
+
+		// Ignore a trailing newline or anything else that is not a digit.
+		int end = 2;
+		while (end < digits.limit() && Character.isDigit(digits.get(end))) {
+			end++;
+		}
+		decimalPlaces = end - 2;
+	}
+
+	/**
+	 * Maps the reference file bundled alongside this class. The file is copied out
+	 * of the classpath to a temporary file first, as a resource inside a jar cannot
+	 * be memory-mapped. Note that compiling with plain javac does not copy the file
+	 * next to the classes; in that case, pass a reference file path instead.
+	 *
+	 * @return referenceDigits The bundled reference digits.
+	 * @throws IOException If the bundled file is not on the classpath or cannot be
+	 *                     copied.
+	 */
+	public static ReferenceDigits bundled() throws IOException {
+		try (InputStream in = ReferenceDigits.class.getResourceAsStream(BUNDLED_FILE)) {
+			if (in == null) {
+				throw new IOException("Bundled reference file " + BUNDLED_FILE
+						+ " is not on the classpath; pass the path to a reference file instead");
+			}
+			Path file = Files.createTempFile("pi_reference", ".txt");
+			file.toFile().deleteOnExit();
+			Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+			return new ReferenceDigits(file);
+		}
+	}
+
+	/**
+	 * Returns the largest number of decimal places d for which the approximation is
+	 * within half a unit of the d-th decimal place of pi, so a result that has been
+	 * correctly rounded up in its last place is still counted in full.
+	 *
+	 * The approximation is compared against the mapped digits directly. Only the
+	 * digits after the first mismatch are needed to measure the error, as
+	 * everything before it cancels.
+	 *
+	 * @param pi The approximation of pi to check.
+	 * @return correctDigits The number of correct decimal places, at most the
+	 *         scale of the approximation, or 0 if even the integer part is wrong.
+	 */
+	public int correctDigits(BigDecimal pi) {
+		int limit = Math.min(Math.max(pi.scale(), 0), decimalPlaces);
+		String value = pi.toPlainString();
+
+		// Any integer part other than 3 is at least 0.14 away, so no place is correct.
+		if (limit == 0 || !value.startsWith("3.")) {
+			return 0;
+		}
+
+		int mismatch = 2;
+		while (mismatch < limit + 2 && value.charAt(mismatch) == digits.get(mismatch)) {
+			mismatch++;
+		}
+
+		// Read a few places beyond the approximation, so the reference's own
+		// truncation cannot decide a borderline case.
+		int end = Math.min(limit + 10, decimalPlaces) + 2;
+		StringBuilder reference = new StringBuilder("0.");
+		for (int i = mismatch; i < end; i++) {
+			reference.append((char) digits.get(i));
+		}
+		BigDecimal valueTail = new BigDecimal("0." + value.substring(mismatch) + "0");
+		BigDecimal twiceError = valueTail.subtract(new BigDecimal(reference.append('0').toString())).abs()
+				.movePointLeft(mismatch - 2).multiply(BigDecimal.valueOf(2));
+		if (twiceError.signum() == 0) {
+			return limit;
+		}
+
+		// 2 * |error| <= 10^-d holds for every d up to floor(-log10(2 * |error|)).
+		int correct = twiceError.scale() - twiceError.precision();
+		if (twiceError.compareTo(BigDecimal.ONE.movePointLeft(correct + 1)) <= 0) {
+			correct++;
+		}
+		return Math.max(0, Math.min(correct, limit));
+	}
+
+	/**
+	 * @return decimalPlaces The number of decimal places held by the reference
+	 *         file.
+	 */
+	public int getDecimalPlaces() {
+		return decimalPlaces;
+	}
+}
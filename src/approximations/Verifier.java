@@ -0,0 +1,263 @@
+package approximations;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * This class checks approximations of pi without recomputing them. The tail
+ * hexadecimal digits of a result are compared against the BBP digit extraction
+ * algorithm, which calculates any hexadecimal digit of pi directly using only
+ * modular arithmetic, and large integer calculations are checked against a
+ * Checksum of their residues modulo small primes, which is tracked alongside
+ * them in constant time per step.
+ *
+ * @author Kyler McMullin
+ *
+ */
+public class Verifier {
+
+	/**
+	 * The number of hexadecimal digits compared by a spot-check. Digit extraction
+	 * is done in double precision, which reliably yields this many digits.
+	 */
+	public static final int SPOT_CHECK_DIGITS = 8;
+	/**
+	 * The number of trailing decimal places a spot-check ignores, as they may have
+	 * been affected by rounding.
+	 */
+	public static final int TAIL_MARGIN = 2;
+	/**
+	 * The primes a Checksum tracks residues modulo.
+	 */
+	private static final long[] PRIMES = { 2147483647L, 2147483629L };
+
+	/**
+	 * Checks the last reliable hexadecimal digits of the approximation, assuming
+	 * every decimal place it has been rounded off to is meant to be correct.
+	 *
+	 * @param pi The approximation of pi to check.
+	 * @return verified True if the tail digits match the BBP digit extraction.
+	 */
+	public static boolean spotCheck(BigDecimal pi) {
+		return spotCheck(pi, pi.scale());
+	}
+
+	/**
+	 * Checks the last reliable hexadecimal digits of the approximation against the
+	 * BBP digit extraction.
+	 *
+	 * @param pi            The approximation of pi to check.
+	 * @param decimalPlaces The number of decimal places of the approximation that
+	 *                      are meant to be correct.
+	 * @return verified True if the tail digits match the BBP digit extraction.
+	 */
+	public static boolean spotCheck(BigDecimal pi, int decimalPlaces) {
+		// Each hexadecimal digit carries log2(16) / log2(10) decimal digits.
+		long hexPlaces = (long) ((decimalPlaces - TAIL_MARGIN) * Math.log(10) / Math.log(16));
+		if (hexPlaces <= 0) {
+			return true;
+		}
+		int count = (int) Math.min(SPOT_CHECK_DIGITS, hexPlaces);
+		long position = hexPlaces - count;
+
+		// Compare the windows as fractions rather than digit strings. A correct
+		// value may sit just either side of a carry in the last digit, so it is
+		// only rejected if the windows are a whole unit of that digit apart.
+		BigDecimal shifted = pi.multiply(new BigDecimal(BigInteger.ONE.shiftLeft((int) (4 * position))));
+		double actual = shifted.subtract(shifted.setScale(0, RoundingMode.FLOOR)).doubleValue();
+		double distance = Math.abs(actual - bbpFraction(position));
+		distance = Math.min(distance, 1 - distance);
+		return distance < Math.pow(16, -count);
+	}
+
+	/**
+	 * Checks spotCheck against correctly rounded values of pi over a range of
+	 * decimal places, printing each precision it wrongly rejects.
+	 *
+	 * Usage: Verifier [fromDecimalPlaces toDecimalPlaces]
+	 *
+	 * @param args The command line arguments.
+	 */
+	public static void main(String[] args) {
+		int from = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+		int to = args.length > 1 ? Integer.parseInt(args[1]) : 3000;
+
+		int places = to + 10;
+		BigDecimal pi = new RamanujanRecurrence(places / 7 + 2, places).approx();
+
+		int failures = 0;
+		for (int d = from; d <= to; d++) {
+			if (!spotCheck(pi.setScale(d, RoundingMode.HALF_UP))) {
+				System.out.println("Spot-check rejected pi correctly rounded to " + d + " places");
+				failures++;
+			}
+		}
+		System.out.println(failures + " failures between " + from + " and " + to + " places");
+		if (failures > 0) {
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Calculates the fractional part of pi * 16^position with the BBP digit
+	 * extraction algorithm.
+	 *
+	 * INTERNAL USE ONLY!!!
+	 *
+	 * @param position The number of hexadecimal places to skip after the point.
+	 * @return fraction The fractional part, between 0 and 1.
+	 */
+	private static double bbpFraction(long position) {
+		if (position < 0 || 8 * position + 6 > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Position out of range: " + position);
+		}
+
+		double fraction = 4 * series(1, position) - 2 * series(4, position) - series(5, position)
+				- series(6, position);
+		return fraction - Math.floor(fraction);
+	}
+
+	/**
+	 * Calculates the fractional part of the sum over k of 16^(position - k) / (8k
+	 * + j).
+	 *
+	 * INTERNAL USE ONLY!!!
+	 *
+	 * @param j        The offset of the series denominator.
+	 * @param position The number of hexadecimal places to skip after the point.
+	 * @return seriesValue The fractional part of the series.
+	 */
+	private static double series(int j, long position) {
+		double sum = 0;
+
+		// Terms left of the point only contribute their fractional part, which
+		// modular exponentiation gives exactly.
+		for (long k = 0; k <= position; k++) {
+			long denom = 8 * k + j;
+			sum += (double) powMod(16, position - k, denom) / denom;
+			sum -= Math.floor(sum);
+		}
+
+		// Terms right of the point shrink by a factor of 16 each.
+		for (long k = position + 1; k <= position + 16; k++) {
+			sum += Math.pow(16, position - k) / (8 * k + j);
+		}
+
+		return sum - Math.floor(sum);
+	}
+
+	/**
+	 * Calculates base^exponent mod modulus by repeated squaring. The modulus must
+	 * be below 2^31 so that every intermediate product fits in a long.
+	 *
+	 * INTERNAL USE ONLY!!!
+	 *
+	 * @param base     The base.
+	 * @param exponent The non-negative exponent.
+	 * @param modulus  The modulus.
+	 * @return power The result, between 0 and modulus - 1.
+	 */
+	private static long powMod(long base, long exponent, long modulus) {
+		long result = 1 % modulus;
+		base %= modulus;
+		while (exponent > 0) {
+			if ((exponent & 1) == 1) {
+				result = (result * base) % modulus;
+			}
+			base = (base * base) % modulus;
+			exponent >>= 1;
+		}
+		return result;
+	}
+
+	/**
+	 * This class tracks the residues of a BigInteger calculation modulo small
+	 * primes. Each step costs a few long operations rather than a pass over the
+	 * BigInteger, and comparing the final residues against the BigInteger result
+	 * catches any corruption that is not a multiple of every prime.
+	 */
+	public static class Checksum {
+
+		/**
+		 * The residue modulo each of PRIMES.
+		 */
+		private final long[] residues;
+
+		/**
+		 * Instantiates the checksum of a long value.
+		 *
+		 * @param value The value to take the residues of.
+		 */
+		public Checksum(long value) {
+			residues = new long[PRIMES.length];
+			for (int i = 0; i < PRIMES.length; i++) {
+				residues[i] = Math.floorMod(value, PRIMES[i]);
+			}
+		}
+
+		/**
+		 * Instantiates the checksum of a BigInteger value.
+		 *
+		 * @param value The value to take the residues of.
+		 */
+		public Checksum(BigInteger value) {
+			residues = new long[PRIMES.length];
+			for (int i = 0; i < PRIMES.length; i++) {
+				residues[i] = value.mod(BigInteger.valueOf(PRIMES[i])).longValue();
+			}
+		}
+
+		/**
+		 * Instantiates a checksum from already reduced residues.
+		 *
+		 * @param residues The residue modulo each of PRIMES.
+		 */
+		private Checksum(long[] residues) {
+			this.residues = residues;
+		}
+
+		/**
+		 * @param factor The value to multiply by.
+		 * @return product The checksum of this value multiplied by factor.
+		 */
+		public Checksum multiply(long factor) {
+			return multiply(new Checksum(factor));
+		}
+
+		/**
+		 * @param other The checksum of the value to multiply by.
+		 * @return product The checksum of the product of both values.
+		 */
+		public Checksum multiply(Checksum other) {
+			long[] product = new long[PRIMES.length];
+			for (int i = 0; i < PRIMES.length; i++) {
+				product[i] = (residues[i] * other.residues[i]) % PRIMES[i];
+			}
+			return new Checksum(product);
+		}
+
+		/**
+		 * @param other The checksum of the value to add.
+		 * @return sum The checksum of the sum of both values.
+		 */
+		public Checksum add(Checksum other) {
+			long[] sum = new long[PRIMES.length];
+			for (int i = 0; i < PRIMES.length; i++) {
+				sum[i] = (residues[i] + other.residues[i]) % PRIMES[i];
+			}
+			return new Checksum(sum);
+		}
+
+		/**
+		 * Returns whether the given value has the residues tracked by this checksum.
+		 *
+		 * @param value The result of the calculation this checksum tracked.
+		 * @return verified True if every residue agrees.
+		 */
+		public boolean matches(BigInteger value) {
+			return Arrays.equals(residues, new Checksum(value).residues);
+		}
+	}
+}